@@ -0,0 +1,17 @@
+package com.example.demo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Denormalized read model: the product, its parameters and its values
+// stored as one JSON document keyed by product id.
+@Data
+@Entity
+@Table(name = "product_snapshot")
+public class ProductSnapshot {
+    @Id
+    private Long productId;
+    
+    @Lob
+    private String document;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public AdmissionConfig(AdmissionProperties properties, MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        // More admitted requests than connections would just move the queue into Hikari
+        if (properties.isEnabled() && properties.totalMaxConcurrent() > maxPoolSize) {
+            throw new IllegalStateException("admission max-concurrent total (" + properties.totalMaxConcurrent()
+                + ") exceeds spring.datasource.hikari.maximum-pool-size (" + maxPoolSize + ")");
+        }
+        this.admissionInterceptor = new AdmissionInterceptor(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+            .addPathPatterns("/login/authenticate", "/login/admin", "/login/productsonly",
+                "/login/products", "/login/products/**");
+    }
+}
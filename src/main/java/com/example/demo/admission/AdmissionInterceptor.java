@@ -0,0 +1,167 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admission control for the login and product APIs:
+// 1. token bucket per client (429 when empty)
+// 2. concurrency cap per endpoint group (503 when the wait queue is too deep
+//    or no slot frees up within queueTimeoutMs)
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBucket> buckets;
+    private final Map<String, Semaphore> limiters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> waiting = new ConcurrentHashMap<>();
+
+    public AdmissionInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // LRU in access order, capped at maxTrackedClients; guarded by its own monitor
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > properties.getMaxTrackedClients();
+            }
+        };
+        register("login", properties.getLogin());
+        register("product-write", properties.getProductWrite());
+        register("product-read", properties.getProductRead());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // CORS preflights carry no work and must not spend tokens or slots
+        if (!properties.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+
+        String group = groupOf(request);
+
+        TokenBucket bucket = bucketFor(clientKey(request));
+        if (!bucket.tryConsume()) {
+            count(group, "rate_limited");
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, bucket.secondsUntilRefill(), "Rate limit exceeded");
+            return false;
+        }
+
+        Semaphore limiter = limiters.get(group);
+        if (!acquire(group, limiter)) {
+            // Shed requests did no work, so they should not cost the client a token
+            bucket.refund();
+            count(group, "shed");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server busy, try again later");
+            return false;
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, limiter);
+        count(group, "admitted");
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof Semaphore limiter) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            limiter.release();
+        }
+    }
+
+    private void register(String group, AdmissionProperties.EndpointLimit limit) {
+        Semaphore limiter = new Semaphore(limit.getMaxConcurrent(), true);
+        AtomicInteger queued = new AtomicInteger();
+        limiters.put(group, limiter);
+        waiting.put(group, queued);
+        meterRegistry.gauge("admission.inflight", Tags.of("group", group), limiter,
+                s -> limit.getMaxConcurrent() - s.availablePermits());
+        meterRegistry.gauge("admission.queued", Tags.of("group", group), queued);
+    }
+
+    // Waiters are counted exactly: a request only waits if it claims one of the
+    // max-queue places, otherwise it is shed straight away
+    private boolean acquire(String group, Semaphore limiter) throws InterruptedException {
+        // Timed form with no wait honours fairness, unlike tryAcquire()
+        if (limiter.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        AtomicInteger queued = waiting.get(group);
+        try {
+            if (queued.incrementAndGet() > limitFor(group).getMaxQueue()) {
+                return false;
+            }
+            return limiter.tryAcquire(properties.getQueueTimeoutMs(), TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private String groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/login/products")) {
+            return "login";
+        }
+        return "GET".equalsIgnoreCase(request.getMethod()) ? "product-read" : "product-write";
+    }
+
+    private AdmissionProperties.EndpointLimit limitFor(String group) {
+        switch (group) {
+            case "product-write":
+                return properties.getProductWrite();
+            case "product-read":
+                return properties.getProductRead();
+            default:
+                return properties.getLogin();
+        }
+    }
+
+    // Keyed on the remote address only: no request header is verified at this
+    // point, so a client-supplied identifier would let callers mint fresh buckets
+    private String clientKey(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    // Least recently seen client is evicted once the limit is reached
+    private TokenBucket bucketFor(String clientKey) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(clientKey,
+                    key -> new TokenBucket(properties.getBucketCapacity(), properties.getRefillPerSecond()));
+        }
+    }
+
+    int trackedClients() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private void count(String group, String outcome) {
+        meterRegistry.counter("admission.requests", "group", group, "outcome", outcome).increment();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain");
+        response.getWriter().write(message);
+    }
+}
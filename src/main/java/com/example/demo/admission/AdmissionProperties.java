@@ -0,0 +1,43 @@
+package com.example.demo.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Settings for the admission layer in front of the login and product APIs.
+// Bound from the "admission.*" keys in application.properties.
+@Data
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+
+    // Token bucket per client (remote address)
+    private int bucketCapacity = 20;
+    private double refillPerSecond = 10;
+    private int maxTrackedClients = 10000;
+
+    // Concurrency caps per endpoint group; together they must fit in the connection pool
+    private EndpointLimit login = new EndpointLimit(2, 4);
+    private EndpointLimit productWrite = new EndpointLimit(3, 6);
+    private EndpointLimit productRead = new EndpointLimit(5, 10);
+
+    // How long a request may wait for a free slot before it is shed
+    private long queueTimeoutMs = 200;
+
+    public int totalMaxConcurrent() {
+        return login.getMaxConcurrent() + productWrite.getMaxConcurrent() + productRead.getMaxConcurrent();
+    }
+
+    @Data
+    public static class EndpointLimit {
+        private int maxConcurrent;
+        private int maxQueue;
+
+        public EndpointLimit() {
+        }
+
+        public EndpointLimit(int maxConcurrent, int maxQueue) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+        }
+    }
+}
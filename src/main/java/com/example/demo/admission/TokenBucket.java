@@ -0,0 +1,47 @@
+package com.example.demo.admission;
+
+// Simple token bucket: refills continuously up to capacity, one token per request.
+public class TokenBucket {
+    private final int capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Give back a token taken for a request that was not served
+    public synchronized void refund() {
+        refill();
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    // Seconds until the next token is available, rounded up
+    public synchronized long secondsUntilRefill() {
+        refill();
+        if (tokens >= 1 || refillPerNano <= 0) {
+            return refillPerNano <= 0 ? 1 : 0;
+        }
+        double nanos = (1 - tokens) / refillPerNano;
+        return Math.max(1, (long) Math.ceil(nanos / 1_000_000_000d));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
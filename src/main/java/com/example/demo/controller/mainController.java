@@ -3,6 +3,8 @@ package com.example.demo.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.example.demo.authModel;
@@ -22,9 +24,14 @@ public class mainController {
     @Autowired  
     ProductService productService;
     
+    // Paged by id; X-Total-Count tells the caller how many rows exist in total
     @GetMapping("admin")
-    public List<authModel> admin_login(){
-        return loginService.login();
+    public ResponseEntity<List<authModel>> admin_login(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        Page<authModel> users = loginService.login(page, size);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(users.getTotalElements()))
+            .body(users.getContent());
     }
     
     @GetMapping("productsonly")
@@ -62,6 +69,13 @@ public class mainController {
         return ResponseEntity.ok(product);
     }
     
+    // Product, parameters and values in one call, served from the precomputed snapshot
+    @GetMapping("products/{productId}/full")
+    public ResponseEntity<String> getProductFull(@PathVariable Long productId) {
+        String document = productService.getProductFull(productId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(document);
+    }
+    
     @PostMapping("products/{productId}/values")
     public ResponseEntity<String> saveProductValues(@PathVariable Long productId, @RequestBody ProductValueRequest request) {
         request.setProductId(productId);
@@ -0,0 +1,9 @@
+package com.example.demo.dao;
+
+import com.example.demo.ProductSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductSnapshotDao extends JpaRepository<ProductSnapshot, Long> {
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class ProductFullResponse {
+    private Long id;
+    private String productName;
+    private List<ProductResponse.ParameterInfo> parameters;
+    private List<ProductValueResponse> values;
+}
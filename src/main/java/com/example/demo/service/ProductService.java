@@ -4,11 +4,20 @@ import com.example.demo.*;
 import com.example.demo.dao.*;
 import com.example.demo.dto.*;
 import com.example.demo.dto.ProductParameterRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.List;
 import java.util.stream.Collectors;
 
+// Each write and the product_snapshot rebuild it triggers commit together.
+// Writes use READ_COMMITTED so reads taken after the product row lock see the latest commit.
 @Service
 public class ProductService {
     
@@ -20,9 +29,19 @@ public class ProductService {
     
     @Autowired
     private ProductValueDao valueDao;
+    
+    @Autowired
+    private ProductSnapshotDao snapshotDao;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     // public ProductsOnly 
     
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ProductResponse createProduct(ProductRequest request) {
         Product product = new Product();
         product.setProductName(request.getProductName());
@@ -39,9 +58,11 @@ public class ProductService {
             })
             .collect(Collectors.toList());
         
+        refreshSnapshot(savedProduct);
         return convertToResponse(savedProduct, parameters);
     }
     
+    @Transactional(readOnly = true)
     public ProductResponse getProduct(Long productId) {
         Product product = productDao.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -50,6 +71,7 @@ public class ProductService {
         return convertToResponse(product, parameters);
     }
     
+    @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
         List<Product> products = productDao.findAll();
         return products.stream()
@@ -60,19 +82,38 @@ public class ProductService {
             .collect(Collectors.toList());
     }
     
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void saveProductValues(ProductValueRequest request) {
-        List<ProductValue> values = request.getValues().stream()
+        // Unknown product or parameter fails here, before any value is written
+        Product product = lockProduct(request.getProductId());
+        
+        // Values may only point at this product's own parameters, otherwise a write
+        // to another product's parameter would leave this product's snapshot stale
+        List<ProductParameter> parameters = request.getValues().stream()
             .map(valueEntry -> {
-                ProductValue value = new ProductValue();
-                value.setName(valueEntry.getName());
-                value.setValue(valueEntry.getValue());
-                value.setProduct(productDao.findById(request.getProductId()).orElse(null));
-                value.setParameter(parameterDao.findById(valueEntry.getParameterId()).orElse(null));
-                return valueDao.save(value);
+                ProductParameter parameter = parameterDao.findById(valueEntry.getParameterId())
+                    .orElseThrow(() -> new RuntimeException("Parameter not found"));
+                if (parameter.getProduct() == null || !product.getId().equals(parameter.getProduct().getId())) {
+                    throw new RuntimeException("Parameter does not belong to product");
+                }
+                return parameter;
             })
             .collect(Collectors.toList());
+        
+        for (int i = 0; i < parameters.size(); i++) {
+            ProductValueRequest.ValueEntry valueEntry = request.getValues().get(i);
+            ProductValue value = new ProductValue();
+            value.setName(valueEntry.getName());
+            value.setValue(valueEntry.getValue());
+            value.setProduct(product);
+            value.setParameter(parameters.get(i));
+            valueDao.save(value);
+        }
+        
+        refreshSnapshot(product);
     }
     
+    @Transactional(readOnly = true)
     public List<ProductValueResponse> getProductValues(Long productId) {
         List<ProductValue> values = valueDao.findByProductId(productId);
         return values.stream()
@@ -80,15 +121,21 @@ public class ProductService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void deleteProductValue(Long valueId) {
         ProductValue value = valueDao.findById(valueId)
             .orElseThrow(() -> new RuntimeException("Product value not found"));
+        Product product = value.getProduct() != null ? lockProduct(value.getProduct().getId()) : null;
         valueDao.delete(value);
+        
+        if (product != null) {
+            refreshSnapshot(product);
+        }
     }
     
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ProductResponse updateProductParameters(ProductRequest request) {
-        Product product = productDao.findById(request.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = lockProduct(request.getProductId());
         
         // Update product name if provided
         if (request.getProductName() != null && !request.getProductName().isEmpty()) {
@@ -112,13 +159,16 @@ public class ProductService {
             })
             .collect(Collectors.toList());
         
+        refreshSnapshot(product);
         return convertToResponse(product, parameters);
     }
 
     // Add these new methods
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void deleteParameter(Long parameterId) {
         ProductParameter parameter = parameterDao.findById(parameterId)
             .orElseThrow(() -> new RuntimeException("Parameter not found"));
+        Product product = parameter.getProduct() != null ? lockProduct(parameter.getProduct().getId()) : null;
         
         // Delete associated values first
         List<ProductValue> associatedValues = valueDao.findByParameterId(parameterId);
@@ -126,11 +176,17 @@ public class ProductService {
         
         // Delete the parameter
         parameterDao.delete(parameter);
+        
+        if (product != null) {
+            refreshSnapshot(product);
+        }
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ProductResponse updateParameter(Long parameterId, ProductParameterRequest request) {
         ProductParameter parameter = parameterDao.findById(parameterId)
             .orElseThrow(() -> new RuntimeException("Parameter not found"));
+        Product product = lockProduct(parameter.getProduct().getId());
         
         parameter.setParameterName(request.getParameterName());
         parameter.setDataType(request.getDataType());
@@ -139,14 +195,14 @@ public class ProductService {
         parameterDao.save(parameter);
         
         // Return updated product with all parameters
-        Product product = parameter.getProduct();
         List<ProductParameter> parameters = parameterDao.findByProductId(product.getId());
+        refreshSnapshot(product);
         return convertToResponse(product, parameters);
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ProductResponse addParameter(Long productId, ProductParameterRequest request) {
-        Product product = productDao.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = lockProduct(productId);
         
         ProductParameter parameter = new ProductParameter();
         parameter.setParameterName(request.getParameterName());
@@ -158,9 +214,56 @@ public class ProductService {
         
         // Return updated product with all parameters
         List<ProductParameter> parameters = parameterDao.findByProductId(productId);
+        refreshSnapshot(product);
         return convertToResponse(product, parameters);
     }
     
+    // Product, parameters and values in one precomputed JSON document.
+    // Served with a single primary-key lookup; built on first read if missing.
+    public String getProductFull(Long productId) {
+        return snapshotDao.findById(productId)
+            .map(ProductSnapshot::getDocument)
+            .orElseGet(() -> rebuildSnapshot(productId));
+    }
+    
+    // Miss path only: rebuild in its own write transaction under the product row lock
+    private String rebuildSnapshot(Long productId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return transaction.execute(status -> refreshSnapshot(lockProduct(productId)));
+    }
+    
+    // Row lock on the product serializes writers, so snapshots are rebuilt in commit order
+    private Product lockProduct(Long productId) {
+        return productDao.findByIdForUpdate(productId)
+            .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+    
+    // Rebuild the snapshot for one product; called after every write that touches it,
+    // inside the same transaction and with the product row locked
+    private String refreshSnapshot(Product product) {
+        Long productId = product.getId();
+        ProductResponse base = convertToResponse(product, parameterDao.findByProductId(productId));
+        ProductFullResponse full = new ProductFullResponse();
+        full.setId(base.getId());
+        full.setProductName(base.getProductName());
+        full.setParameters(base.getParameters());
+        full.setValues(getProductValues(productId));
+        
+        String document;
+        try {
+            document = objectMapper.writeValueAsString(full);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not build product snapshot", e);
+        }
+        
+        ProductSnapshot snapshot = new ProductSnapshot();
+        snapshot.setProductId(productId);
+        snapshot.setDocument(document);
+        snapshotDao.save(snapshot);
+        return document;
+    }
+    
     private ProductResponse convertToResponse(Product product, List<ProductParameter> parameters) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
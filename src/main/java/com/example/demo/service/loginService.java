@@ -4,6 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.example.demo.authModel;
@@ -15,9 +19,15 @@ import com.example.demo.dto.LoginResponse;
 public class loginService {
     @Autowired
     loginDao loginDao;
+
+    // Upper bound on rows returned by one page of the admin listing
+    @Value("${login.admin.max-results:100}")
+    int adminMaxResults;
     
-    public List<authModel> login() {
-        return loginDao.findAll();
+    // Ordered by id so pages are stable; size is capped at login.admin.max-results
+    public Page<authModel> login(int page, Integer size) {
+        int pageSize = size == null ? adminMaxResults : Math.min(Math.max(size, 1), adminMaxResults);
+        return loginDao.findAll(PageRequest.of(Math.max(page, 0), pageSize, Sort.by("id")));
     }
     
     public LoginResponse authenticateUser(LoginRequest loginRequest) {
@@ -560,15 +560,11 @@ function ProductValueEntry({ product, onBack, refreshTrigger }) {
 
   const fetchProductData = async () => {
     try {
-      // Always fetch fresh product data from database
-      const productResponse = await fetch(`/login/products/${product.id}`);
-      const productData = await productResponse.json();
+      // Product, parameters and saved values come back in one snapshot
+      const response = await fetch(`/login/products/${product.id}/full`);
+      const productData = await response.json();
       setCurrentProduct(productData);
-      
-      // Fetch saved values
-      const valuesResponse = await fetch(`/login/products/${product.id}/values`);
-      const valuesData = await valuesResponse.json();
-      setSavedValues(valuesData);
+      setSavedValues(productData.values);
     } catch (error) {
       console.error("Error fetching data:", error);
     }
@@ -0,0 +1,194 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionInterceptorTest {
+
+    private final Object handler = new Object();
+    private AdmissionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setBucketCapacity(2);
+        properties.setRefillPerSecond(0);
+        properties.setQueueTimeoutMs(10);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void returns429WithRetryAfterOnceBucketIsEmpty() throws Exception {
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("GET", "/login/products", "10.0.0.1");
+            assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler)).isTrue();
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("GET", "/login/products", "10.0.0.1"), response, handler))
+            .isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.counter("admission.requests", "group", "product-read", "outcome", "rate_limited")
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    void returns503WhenQueueIsDeeperThanMaxQueue() throws Exception {
+        properties.setProductWrite(new AdmissionProperties.EndpointLimit(1, 0));
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        MockHttpServletRequest first = request("POST", "/login/products", "10.0.0.1");
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), handler)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("POST", "/login/products", "10.0.0.2"), response, handler))
+            .isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    void maxQueueIsAHardLimitOnWaiters() throws Exception {
+        properties.setBucketCapacity(10);
+        properties.setQueueTimeoutMs(5000);
+        properties.setProductWrite(new AdmissionProperties.EndpointLimit(1, 1));
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        MockHttpServletRequest holder = request("POST", "/login/products", "10.0.0.1");
+        assertThat(interceptor.preHandle(holder, new MockHttpServletResponse(), handler)).isTrue();
+
+        // One request takes the only queue place and waits for the slot
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return interceptor.preHandle(request("POST", "/login/products", "10.0.0.2"),
+                    new MockHttpServletResponse(), handler);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queued("product-write") < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(queued("product-write")).isEqualTo(1);
+
+        // The queue is full, so the next request is shed without waiting
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("POST", "/login/products", "10.0.0.3"), response, handler))
+            .isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(queued("product-write")).isEqualTo(1);
+
+        interceptor.afterCompletion(holder, new MockHttpServletResponse(), handler, null);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued("product-write")).isEqualTo(0);
+    }
+
+    @Test
+    void shedRequestDoesNotSpendAToken() throws Exception {
+        properties.setBucketCapacity(1);
+        properties.setProductWrite(new AdmissionProperties.EndpointLimit(1, 0));
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        MockHttpServletRequest holder = request("POST", "/login/products", "10.0.0.1");
+        assertThat(interceptor.preHandle(holder, new MockHttpServletResponse(), handler)).isTrue();
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("POST", "/login/products", "10.0.0.2"), shed, handler)).isFalse();
+        assertThat(shed.getStatus()).isEqualTo(503);
+
+        interceptor.afterCompletion(holder, new MockHttpServletResponse(), handler, null);
+        assertThat(interceptor.preHandle(request("POST", "/login/products", "10.0.0.2"),
+            new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void afterCompletionReleasesPermit() throws Exception {
+        properties.setBucketCapacity(10);
+        properties.setProductWrite(new AdmissionProperties.EndpointLimit(1, 0));
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        MockHttpServletRequest first = request("PUT", "/login/products/1/parameters", "10.0.0.1");
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(inflight("product-write")).isEqualTo(1);
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        assertThat(inflight("product-write")).isEqualTo(0);
+
+        // A second completion for the same request must not release twice
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        assertThat(inflight("product-write")).isEqualTo(0);
+
+        MockHttpServletRequest second = request("PUT", "/login/products/1/parameters", "10.0.0.1");
+        assertThat(interceptor.preHandle(second, new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(inflight("product-write")).isEqualTo(1);
+    }
+
+    @Test
+    void preflightSpendsNoTokenOrSlot() throws Exception {
+        properties.setBucketCapacity(1);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        MockHttpServletRequest preflight = request("OPTIONS", "/login/products", "10.0.0.1");
+        preflight.addHeader("Origin", "http://example.com");
+        preflight.addHeader("Access-Control-Request-Method", "POST");
+        assertThat(interceptor.preHandle(preflight, new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(inflight("product-write")).isEqualTo(0);
+
+        assertThat(interceptor.preHandle(request("POST", "/login/products", "10.0.0.1"),
+            new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void evictsLeastRecentlySeenClientAtTrackedClientLimit() throws Exception {
+        properties.setBucketCapacity(1);
+        properties.setMaxTrackedClients(2);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(properties, meterRegistry);
+
+        for (String client : new String[] {"10.0.0.1", "10.0.0.2", "10.0.0.3"}) {
+            MockHttpServletRequest request = request("GET", "/login/products", client);
+            assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler)).isTrue();
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        }
+        assertThat(interceptor.trackedClients()).isEqualTo(2);
+
+        // 10.0.0.1 was evicted, so it starts over with a full bucket...
+        MockHttpServletRequest evicted = request("GET", "/login/products", "10.0.0.1");
+        assertThat(interceptor.preHandle(evicted, new MockHttpServletResponse(), handler)).isTrue();
+        interceptor.afterCompletion(evicted, new MockHttpServletResponse(), handler, null);
+
+        // ...while 10.0.0.3 is still tracked and still empty
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("GET", "/login/products", "10.0.0.3"), response, handler))
+            .isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(interceptor.trackedClients()).isEqualTo(2);
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private double queued(String group) {
+        return meterRegistry.get("admission.queued").tag("group", group).gauge().value();
+    }
+
+    private double inflight(String group) {
+        return meterRegistry.get("admission.inflight").tag("group", group).gauge().value();
+    }
+}
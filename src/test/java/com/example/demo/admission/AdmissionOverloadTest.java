@@ -0,0 +1,159 @@
+package com.example.demo.admission;
+
+import com.example.demo.Product;
+import com.example.demo.ProductParameter;
+import com.example.demo.dao.ProductDao;
+import com.example.demo.dao.ProductParameterDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Measures admitted p99 at a load below the product-read cap, then again at far more
+// concurrent clients than the cap, and checks the overloaded p99 stays close to the baseline.
+@SpringBootTest(properties = {
+    "spring.profiles.active=h2",
+    "spring.datasource.url=jdbc:h2:mem:admission-overload",
+    "admission.bucket-capacity=100000",
+    "admission.refill-per-second=100000",
+    "admission.product-read.max-concurrent=4",
+    "admission.product-read.max-queue=4",
+    "admission.queue-timeout-ms=20"
+})
+@AutoConfigureMockMvc
+class AdmissionOverloadTest {
+
+    private static final int BASELINE_CLIENTS = 2;
+    private static final int OVERLOAD_CLIENTS = 32;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int PRODUCTS = 30;
+    // Admitted p99 under overload may grow by this factor plus the queue timeout
+    private static final int STABILITY_FACTOR = 3;
+    private static final long QUEUE_TIMEOUT_NANOS = 20_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ProductParameterDao parameterDao;
+
+    @BeforeEach
+    void seedProducts() {
+        // GET /login/products issues one query per product, so each request holds a connection a while
+        if (productDao.count() >= PRODUCTS) {
+            return;
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Load " + i);
+            product = productDao.save(product);
+            for (int p = 0; p < 5; p++) {
+                ProductParameter parameter = new ProductParameter();
+                parameter.setParameterName("p" + p);
+                parameter.setDataType("String");
+                parameter.setRange("any");
+                parameter.setProduct(product);
+                parameterDao.save(parameter);
+            }
+        }
+    }
+
+    @Test
+    void admittedP99StaysNearBaselineUnderOverload() throws Exception {
+        // Warm up so class loading and JIT do not land in the measured runs
+        run(BASELINE_CLIENTS, REQUESTS_PER_CLIENT);
+
+        Result baseline = run(BASELINE_CLIENTS, REQUESTS_PER_CLIENT);
+        Result overload = run(OVERLOAD_CLIENTS, REQUESTS_PER_CLIENT);
+
+        Result unprotected;
+        properties.setEnabled(false);
+        try {
+            unprotected = run(OVERLOAD_CLIENTS, REQUESTS_PER_CLIENT);
+        } finally {
+            properties.setEnabled(true);
+        }
+
+        System.out.printf("baseline:    admitted=%d shed=%d p99=%dus%n",
+            baseline.admitted(), baseline.shed(), baseline.p99Nanos() / 1000);
+        System.out.printf("overload:    admitted=%d shed=%d p99=%dus%n",
+            overload.admitted(), overload.shed(), overload.p99Nanos() / 1000);
+        System.out.printf("unprotected: admitted=%d p99=%dus%n",
+            unprotected.admitted(), unprotected.p99Nanos() / 1000);
+
+        assertThat(baseline.shed()).isZero();
+        assertThat(overload.shed()).isPositive();
+        assertThat(overload.admitted()).isPositive();
+        assertThat(overload.p99Nanos())
+            .isLessThanOrEqualTo(baseline.p99Nanos() * STABILITY_FACTOR + QUEUE_TIMEOUT_NANOS);
+
+        // Every permit came back: the group admits requests again once the load is gone
+        assertThat(mockMvc.perform(get("/login/products")).andReturn().getResponse().getStatus())
+            .isEqualTo(200);
+    }
+
+    private Result run(int clients, int requestsPerClient) throws Exception {
+        List<Long> admittedNanos = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long start = System.nanoTime();
+                        int status = mockMvc.perform(get("/login/products"))
+                            .andReturn().getResponse().getStatus();
+                        long elapsed = System.nanoTime() - start;
+                        if (status == 200) {
+                            admittedNanos.add(elapsed);
+                        } else if (status == 503) {
+                            shed.incrementAndGet();
+                            // Well-behaved clients back off on 503 instead of retrying at once
+                            Thread.sleep(2);
+                        } else {
+                            other.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(other.get()).isZero();
+        List<Long> sorted = new ArrayList<>(admittedNanos);
+        Collections.sort(sorted);
+        long p99 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new Result(sorted.size(), shed.get(), p99);
+    }
+
+    private record Result(int admitted, int shed, long p99Nanos) {
+    }
+}
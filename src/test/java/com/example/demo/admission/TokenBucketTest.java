@@ -0,0 +1,40 @@
+package com.example.demo.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void emptiesAfterCapacityAndRefundsOneToken() {
+        // No refill, so the outcome does not depend on timing
+        TokenBucket bucket = new TokenBucket(2, 0);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+
+        bucket.refund();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 0);
+
+        bucket.refund();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void reportsRetryAfterWhenEmpty() {
+        TokenBucket bucket = new TokenBucket(1, 0.5);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.secondsUntilRefill()).isBetween(1L, 2L);
+    }
+}
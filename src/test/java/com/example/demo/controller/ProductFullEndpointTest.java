@@ -0,0 +1,254 @@
+package com.example.demo.controller;
+
+import com.example.demo.dao.ProductSnapshotDao;
+import com.example.demo.dao.ProductValueDao;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "spring.profiles.active=h2",
+    "spring.datasource.url=jdbc:h2:mem:product-full",
+    "admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class ProductFullEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductSnapshotDao snapshotDao;
+
+    @Autowired
+    private ProductValueDao valueDao;
+
+    @Test
+    void snapshotFollowsEveryWritePath() throws Exception {
+        // createProduct
+        JsonNode created = call(post("/login/products"), """
+            {"productName": "Bench", "parameters": [
+              {"parameterName": "Size", "dataType": "String", "range": "S-L"},
+              {"parameterName": "Weight", "dataType": "Number", "range": "1-100"}]}
+            """);
+        long productId = created.get("id").asLong();
+        long sizeId = created.get("parameters").get(0).get("id").asLong();
+        long weightId = created.get("parameters").get(1).get("id").asLong();
+        JsonNode full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("productName").asText()).isEqualTo("Bench");
+        assertThat(full.get("parameters")).hasSize(2);
+        assertThat(full.get("values")).isEmpty();
+
+        // saveProductValues
+        callForText(post("/login/products/" + productId + "/values"), """
+            {"values": [
+              {"name": "row1", "parameterId": %d, "value": "M"},
+              {"name": "row1", "parameterId": %d, "value": "10"}]}
+            """.formatted(sizeId, weightId));
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("values")).hasSize(2);
+
+        // deleteProductValue
+        long sizeValueId = valueIdFor(full, "Size");
+        callForText(delete("/login/products/" + productId + "/values/" + sizeValueId), null);
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("values")).hasSize(1);
+
+        // updateParameter
+        call(put("/login/products/" + productId + "/parameters/" + sizeId), """
+            {"parameterName": "Dimension", "dataType": "String", "range": "S-XL"}
+            """);
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("parameters").get(0).get("parameterName").asText()).isEqualTo("Dimension");
+
+        // addParameter
+        call(post("/login/products/" + productId + "/parameters"), """
+            {"parameterName": "Color", "dataType": "String", "range": "any"}
+            """);
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("parameters")).hasSize(3);
+
+        // deleteParameter also removes the values recorded against it
+        callForText(delete("/login/products/" + productId + "/parameters/" + weightId), null);
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("parameters")).hasSize(2);
+        assertThat(full.get("values")).isEmpty();
+
+        // updateProductParameters
+        call(put("/login/products/" + productId + "/parameters"), """
+            {"productName": "Bench v2", "parameters": [
+              {"parameterName": "Only", "dataType": "String", "range": "x"}]}
+            """);
+        full = assertSnapshotMatchesTwoCallPath(productId);
+        assertThat(full.get("productName").asText()).isEqualTo("Bench v2");
+        assertThat(full.get("parameters")).hasSize(1);
+    }
+
+    @Test
+    void missingSnapshotIsRebuiltOnRead() throws Exception {
+        long productId = createProductWithValues("Rebuild", 2, 3);
+        snapshotDao.deleteById(productId);
+
+        assertSnapshotMatchesTwoCallPath(productId);
+    }
+
+    @Test
+    void valuesForUnknownProductAreNotSaved() {
+        long before = valueDao.count();
+
+        assertThatThrownBy(() -> mockMvc.perform(post("/login/products/999999/values")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"values\": [{\"name\": \"x\", \"parameterId\": 1, \"value\": \"1\"}]}")))
+            .hasRootCauseMessage("Product not found");
+        assertThat(valueDao.count()).isEqualTo(before);
+    }
+
+    @Test
+    void valuesCannotPointAtAnotherProductsParameter() throws Exception {
+        long productA = createProductWithValues("Owner A", 1, 1);
+        long productB = createProductWithValues("Owner B", 1, 1);
+        long parameterB = call(get("/login/products/" + productB), null).get("parameters").get(0).get("id").asLong();
+        long before = valueDao.count();
+
+        assertThatThrownBy(() -> mockMvc.perform(post("/login/products/" + productA + "/values")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"values\": [{\"name\": \"x\", \"parameterId\": %d, \"value\": \"1\"}]}"
+                    .formatted(parameterB))))
+            .hasRootCauseMessage("Parameter does not belong to product");
+        assertThatThrownBy(() -> mockMvc.perform(post("/login/products/" + productA + "/values")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"values\": [{\"name\": \"x\", \"parameterId\": 999999, \"value\": \"1\"}]}")))
+            .hasRootCauseMessage("Parameter not found");
+        assertThat(valueDao.count()).isEqualTo(before);
+
+        // Writes to B's parameter leave A's values and snapshot untouched
+        call(put("/login/products/" + productB + "/parameters/" + parameterB), """
+            {"parameterName": "Renamed", "dataType": "String", "range": "any"}
+            """);
+        callForText(delete("/login/products/" + productB + "/parameters/" + parameterB), null);
+        assertThat(assertSnapshotMatchesTwoCallPath(productA).get("values")).hasSize(1);
+        assertThat(assertSnapshotMatchesTwoCallPath(productB).get("values")).isEmpty();
+    }
+
+    // Page load: one /full call against the old /products/{id} plus /products/{id}/values pair.
+    // Excluded from the default build; run with: mvn test -Pbenchmark
+    @Test
+    @Tag("benchmark")
+    void benchmarkFullAgainstTwoCallPath() throws Exception {
+        long productId = createProductWithValues("Benchmark", 10, 20);
+        int warmup = 200;
+        int iterations = 1000;
+
+        for (int i = 0; i < warmup; i++) {
+            mockMvc.perform(get("/login/products/" + productId + "/full"));
+            mockMvc.perform(get("/login/products/" + productId));
+            mockMvc.perform(get("/login/products/" + productId + "/values"));
+        }
+
+        long[] fullNanos = new long[iterations];
+        long[] twoCallNanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/login/products/" + productId + "/full")).andExpect(status().isOk());
+            fullNanos[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mockMvc.perform(get("/login/products/" + productId)).andExpect(status().isOk());
+            mockMvc.perform(get("/login/products/" + productId + "/values")).andExpect(status().isOk());
+            twoCallNanos[i] = System.nanoTime() - start;
+        }
+
+        System.out.printf("page load /full:     p50=%dus p99=%dus%n",
+            percentile(fullNanos, 0.50) / 1000, percentile(fullNanos, 0.99) / 1000);
+        System.out.printf("page load two calls: p50=%dus p99=%dus%n",
+            percentile(twoCallNanos, 0.50) / 1000, percentile(twoCallNanos, 0.99) / 1000);
+    }
+
+    // The stored document, GET /full and the old two-call path must all agree
+    private JsonNode assertSnapshotMatchesTwoCallPath(long productId) throws Exception {
+        JsonNode full = objectMapper.readTree(callForText(get("/login/products/" + productId + "/full"), null));
+        JsonNode product = objectMapper.readTree(callForText(get("/login/products/" + productId), null));
+        JsonNode values = objectMapper.readTree(callForText(get("/login/products/" + productId + "/values"), null));
+
+        assertThat(snapshotDao.findById(productId)).isPresent();
+        assertThat(objectMapper.readTree(snapshotDao.findById(productId).get().getDocument())).isEqualTo(full);
+        assertThat(full.get("id")).isEqualTo(product.get("id"));
+        assertThat(full.get("productName")).isEqualTo(product.get("productName"));
+        assertThat(full.get("parameters")).isEqualTo(product.get("parameters"));
+        assertThat(full.get("values")).isEqualTo(values);
+        return full;
+    }
+
+    private long createProductWithValues(String name, int parameterCount, int rows) throws Exception {
+        List<String> parameters = new ArrayList<>();
+        for (int p = 0; p < parameterCount; p++) {
+            parameters.add("{\"parameterName\": \"p%d\", \"dataType\": \"String\", \"range\": \"any\"}".formatted(p));
+        }
+        JsonNode created = call(post("/login/products"),
+            "{\"productName\": \"%s\", \"parameters\": [%s]}".formatted(name, String.join(",", parameters)));
+        long productId = created.get("id").asLong();
+
+        for (int r = 0; r < rows; r++) {
+            List<String> values = new ArrayList<>();
+            for (JsonNode parameter : created.get("parameters")) {
+                values.add("{\"name\": \"row%d\", \"parameterId\": %d, \"value\": \"v%d\"}"
+                    .formatted(r, parameter.get("id").asLong(), r));
+            }
+            callForText(post("/login/products/" + productId + "/values"),
+                "{\"values\": [%s]}".formatted(String.join(",", values)));
+        }
+        return productId;
+    }
+
+    private long valueIdFor(JsonNode full, String parameterName) {
+        for (JsonNode value : full.get("values")) {
+            if (parameterName.equals(value.get("parameterName").asText())) {
+                return value.get("id").asLong();
+            }
+        }
+        throw new AssertionError("No value for " + parameterName);
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request,
+            String body) throws Exception {
+        return objectMapper.readTree(callForText(request, body));
+    }
+
+    private String callForText(MockHttpServletRequestBuilder request,
+            String body) throws Exception {
+        RequestBuilder builder = body == null ? request
+            : request.contentType(MediaType.APPLICATION_JSON).content(body);
+        return mockMvc.perform(builder)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    private long percentile(long[] samples, double fraction) {
+        long[] sorted = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * fraction) - 1];
+    }
+}